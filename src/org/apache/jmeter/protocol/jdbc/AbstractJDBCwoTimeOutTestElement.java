@@ -68,6 +68,14 @@ public abstract class AbstractJDBCwoTimeOutTestElement extends AbstractJDBCTestE
     private static final int MAX_OPEN_PREPARED_STATEMENTS =
         JMeterUtils.getPropDefault("jdbcsampler.maxopenpreparedstatements", 100); 
 
+    // Keep one Statement per connection for Select/Update instead of creating one per sample
+    protected static final boolean REUSE_STATEMENTS =
+        JMeterUtils.getPropDefault("jdbcsampler.reusestatements", false); // $NON-NLS-1$
+
+    // Tag samples as first execution or repeat of their (normalised) SQL text
+    protected static final boolean TRACK_FIRST_EXECUTION =
+        JMeterUtils.getPropDefault("jdbcsampler.trackfirstexecution", false); // $NON-NLS-1$
+
     private static final String INOUT = "INOUT"; // $NON-NLS-1$
 
     private static final String OUT = "OUT"; // $NON-NLS-1$
@@ -128,6 +136,34 @@ public abstract class AbstractJDBCwoTimeOutTestElement extends AbstractJDBCTestE
     private static final Map<Connection, Map<String, PreparedStatement>> perConnCache =
             new ConcurrentHashMap<Connection, Map<String, PreparedStatement>>();
 
+    /**
+     *  Statements and response headers kept for one connection when jdbcsampler.reusestatements is set.
+     *  Select and Update use distinct statements so that the Update query timeout never applies to Select.
+     *  At one time a Connection is only held by one thread
+     */
+    private static final class CachedConnection {
+        private final String headers;
+        private volatile Statement selectStmt;
+        private volatile Statement updateStmt;
+
+        private CachedConnection(final String headers) {
+            this.headers = headers;
+        }
+    }
+
+    /**
+     *  Cache of plain Statements used by Select/Update and of response headers, one per connection.
+     *  Entries of closed connections are dropped when a new connection is added
+     */
+    private static final Map<Connection, CachedConnection> perConnStatementCache =
+            new ConcurrentHashMap<Connection, CachedConnection>();
+
+    /**
+     *  Distinct SQL texts executed during the test, shared by all threads.
+     *  Only used when jdbcsampler.trackfirstexecution is set
+     */
+    private static final SqlTextIndex sqlTextIndex = new SqlTextIndex();
+
     /**
      * Creates a JDBCSampler.
      */
@@ -149,16 +185,31 @@ public abstract class AbstractJDBCwoTimeOutTestElement extends AbstractJDBCTestE
             // Based on query return value, get results
             final String _queryType = getQueryType();
             if (SELECT.equals(_queryType)) {
-                stmt = conn.createStatement();
-                //stmt.setQueryTimeout(getIntegerQueryTimeout());
                 ResultSet rs = null;
+                boolean success = false;
                 try {
+                    if (REUSE_STATEMENTS) {
+                        stmt = getStatement(conn, false);
+                    } else {
+                        stmt = conn.createStatement();
+                    }
+                    //stmt.setQueryTimeout(getIntegerQueryTimeout());
                 	final String query = getQuery();
-                	System.out.println(query);
+                    if (REUSE_STATEMENTS) {
+                        // No synchronized console write when keeping client overhead low
+                        log.debug(query);
+                    } else {
+                        System.out.println(query);
+                    }
                     rs = stmt.executeQuery(query);
-                    return getStringFromResultSet(rs).getBytes(ENCODING);
+                    final byte[] results = getStringFromResultSet(rs).getBytes(ENCODING);
+                    success = true;
+                    return results;
                 } finally {
                     close(rs);
+                    if (REUSE_STATEMENTS && !success) {
+                        invalidateStatement(conn, false);
+                    }
                 }
             } else if (CALLABLE.equals(_queryType)) {
                 final CallableStatement cstmt = getCallableStatement(conn);
@@ -169,12 +220,24 @@ public abstract class AbstractJDBCwoTimeOutTestElement extends AbstractJDBCTestE
                 final String sb = resultSetsToString(cstmt,hasResultSet, out);
                 return sb.getBytes(ENCODING);
             } else if (UPDATE.equals(_queryType)) {
-                stmt = conn.createStatement();
-                stmt.setQueryTimeout(getIntegerQueryTimeout());
-                stmt.executeUpdate(getQuery());
-                final int updateCount = stmt.getUpdateCount();
-                final String results = updateCount + " updates";
-                return results.getBytes(ENCODING);
+                boolean success = false;
+                try {
+                    if (REUSE_STATEMENTS) {
+                        stmt = getStatement(conn, true);
+                    } else {
+                        stmt = conn.createStatement();
+                    }
+                    stmt.setQueryTimeout(getIntegerQueryTimeout());
+                    stmt.executeUpdate(getQuery());
+                    final int updateCount = stmt.getUpdateCount();
+                    final String results = updateCount + " updates";
+                    success = true;
+                    return results.getBytes(ENCODING);
+                } finally {
+                    if (REUSE_STATEMENTS && !success) {
+                        invalidateStatement(conn, true);
+                    }
+                }
             } else if (PREPARED_SELECT.equals(_queryType)) {
                 final PreparedStatement pstmt = getPreparedStatement(conn);
                 setArguments(pstmt);
@@ -208,10 +271,40 @@ public abstract class AbstractJDBCwoTimeOutTestElement extends AbstractJDBCTestE
                 throw new UnsupportedOperationException("Unexpected query type: "+_queryType);
             }
         } finally {
-            close(stmt);
+            if (!REUSE_STATEMENTS) {
+                close(stmt);
+            }
         }
     }
 
+    /**
+     * @return <code>true</code> if the query type sends the query text to the database
+     */
+    protected boolean hasSqlText() {
+        final String _queryType = getQueryType();
+        return SELECT.equals(_queryType) || UPDATE.equals(_queryType) || CALLABLE.equals(_queryType)
+                || PREPARED_SELECT.equals(_queryType) || PREPARED_UPDATE.equals(_queryType);
+    }
+
+    /**
+     * @return hash of the query text with its literals stripped
+     */
+    protected long getSqlTextKey() {
+        return SqlTextIndex.hash(getQuery());
+    }
+
+    /**
+     * Register a successful execution of the SQL text and add its elapsed time
+     * to the first execution or repeat statistics of the text.
+     *
+     * @param sqlTextKey key returned by {@link #getSqlTextKey()}
+     * @param elapsed execution time in milliseconds, without the time to get the connection
+     * @return <code>true</code> if it is the first execution of this SQL text during the test
+     */
+    protected static boolean recordExecution(final long sqlTextKey, final long elapsed) {
+        return sqlTextIndex.record(sqlTextKey, elapsed);
+    }
+
     private String resultSetsToString(final PreparedStatement pstmt, boolean result, final int[] out) throws SQLException, UnsupportedEncodingException {
         final StringBuilder sb = new StringBuilder();
         int updateCount = 0;
@@ -370,6 +463,89 @@ public abstract class AbstractJDBCwoTimeOutTestElement extends AbstractJDBCTestE
         return pstmt;
     }
 
+    /**
+     * Get the response headers of the connection, cached with its Statement
+     * when jdbcsampler.reusestatements is set.
+     *
+     * @param conn the connection used by the sample
+     * @return the response headers
+     */
+    protected static String getResponseHeaders(final Connection conn) {
+        if (!REUSE_STATEMENTS) {
+            return conn.toString();
+        }
+        return getCachedConnection(conn).headers;
+    }
+
+    private static CachedConnection getCachedConnection(final Connection conn) {
+        CachedConnection cached = perConnStatementCache.get(conn);
+        if (null == cached) {
+            // The pool may have closed or replaced connections since they were cached
+            removeClosedConnections();
+            cached = new CachedConnection(conn.toString());
+            // As a connection is held by only one thread, we cannot already have an 
+            // entry put by another thread
+            perConnStatementCache.put(conn, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Get the Select or Update Statement cached for this connection, creating it if needed.
+     * Only used when jdbcsampler.reusestatements is set.
+     */
+    private static Statement getStatement(final Connection conn, final boolean update) throws SQLException {
+        final CachedConnection cached = getCachedConnection(conn);
+        Statement stmt = update ? cached.updateStmt : cached.selectStmt;
+        // isClosed() is a client side check, the pool may have closed the statement on connection return
+        if (null == stmt || stmt.isClosed()) {
+            stmt = conn.createStatement();
+            if (update) {
+                cached.updateStmt = stmt;
+            } else {
+                cached.selectStmt = stmt;
+            }
+        }
+        return stmt;
+    }
+
+    /**
+     * Called when a sample using a cached Statement failed: the driver flags cannot tell if its server side
+     * handle is still alive, so close it and let the next sample create a new one.
+     */
+    private static void invalidateStatement(final Connection conn, final boolean update) {
+        final CachedConnection cached = perConnStatementCache.get(conn);
+        if (cached != null) {
+            if (update) {
+                close(cached.updateStmt);
+                cached.updateStmt = null;
+            } else {
+                close(cached.selectStmt);
+                cached.selectStmt = null;
+            }
+        }
+    }
+
+    private static void closeStatements(final CachedConnection cached) {
+        close(cached.selectStmt);
+        close(cached.updateStmt);
+    }
+
+    private static void removeClosedConnections() {
+        for (final Map.Entry<Connection, CachedConnection> entry : perConnStatementCache.entrySet()) {
+            boolean closed;
+            try {
+                closed = entry.getKey().isClosed();
+            } catch (final SQLException e) {
+                closed = true;
+            }
+            if (closed) {
+                perConnStatementCache.remove(entry.getKey());
+                closeStatements(entry.getValue());
+            }
+        }
+    }
+
     private static void closeAllStatements(final Collection<PreparedStatement> collection) {
         for (final PreparedStatement pstmt : collection) {
             close(pstmt);
@@ -490,13 +666,27 @@ public abstract class AbstractJDBCwoTimeOutTestElement extends AbstractJDBCTestE
     }    
     
     /**
-     * Clean cache of PreparedStatements
+     * Clean cache of PreparedStatements and reused Statements
      */
     private static final void cleanCache() {
         for (final Map<String, PreparedStatement> element : perConnCache.values()) {
             closeAllStatements(element.values());
         }
         perConnCache.clear();
+        for (final CachedConnection cached : perConnStatementCache.values()) {
+            closeStatements(cached);
+        }
+        perConnStatementCache.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void testEnded(final String host) {
+        super.testEnded(host);
+        cleanCache();
+        sqlTextIndex.logAndClear(log);
     }
 
 }
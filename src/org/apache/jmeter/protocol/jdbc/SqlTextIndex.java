@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.jdbc;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log.Logger;
+
+/**
+ * Index of the distinct SQL texts executed during a test, used to separate
+ * first executions (compile, metadata and plan cache misses on Hive, Spark or Phoenix)
+ * from repeated ones.
+ * 
+ * SQL texts are normalised (literals replaced by a marker, whitespace collapsed, lower case)
+ * while being hashed, and only the 64 bits hash of the normalised text is kept.
+ *
+ */
+final class SqlTextIndex {
+
+    // Outside of the char range so that a literal never hashes like a ? parameter marker
+    private static final int LITERAL_MARKER = 0x10000;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Latency statistics of one normalised SQL text. Updated by several threads.
+     */
+    private static final class Stats {
+        private final AtomicLong firstCount = new AtomicLong();
+        private final AtomicLong firstTotal = new AtomicLong();
+        private final AtomicLong repeatCount = new AtomicLong();
+        private final AtomicLong repeatTotal = new AtomicLong();
+    }
+
+    // key: hash of the normalised SQL text
+    private final ConcurrentMap<Long, Stats> statsByText = new ConcurrentHashMap<Long, Stats>();
+
+    /**
+     * 64 bits FNV-1a hash of the normalised SQL text: string and numeric literals are replaced
+     * by a marker, whitespace is collapsed and the text is lower cased, except for "..." and `...`
+     * quoted identifiers which are case sensitive. The normalised text is never built.
+     *
+     * @param sql the SQL text
+     * @return the hash of the normalised SQL text
+     */
+    static long hash(final String sql) {
+        final int length = sql.length();
+        long h = FNV_OFFSET_BASIS;
+        boolean empty = true;
+        boolean pendingSpace = false;
+        // previous character of the normalised text was part of an identifier (e.g. t in t1)
+        boolean afterIdentifierPart = false;
+        int i = 0;
+        while (i < length) {
+            final char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = !empty;
+                i++;
+                continue;
+            }
+            if (pendingSpace) {
+                h = update(h, ' ');
+                pendingSpace = false;
+                afterIdentifierPart = false;
+            }
+            empty = false;
+            if (c == '\'') {
+                // String literal, '' is an escaped quote
+                i = skipQuoted(sql, i, c);
+                h = update(h, LITERAL_MARKER);
+                afterIdentifierPart = false;
+            } else if (c == '"' || c == '`') {
+                // Quoted identifier, kept as is
+                final int next = skipQuoted(sql, i, c);
+                for (int j = i; j < next && j < length; j++) {
+                    h = update(h, sql.charAt(j));
+                }
+                i = next;
+                afterIdentifierPart = false;
+            } else if (Character.isDigit(c) && !afterIdentifierPart) {
+                // Numeric literal (not part of an identifier such as t1): 42, 3.5, 1e-5, 0x1F
+                i = skipNumber(sql, i);
+                h = update(h, LITERAL_MARKER);
+                afterIdentifierPart = false;
+            } else {
+                h = update(h, Character.toLowerCase(c));
+                afterIdentifierPart = Character.isLetterOrDigit(c) || c == '_';
+                i++;
+            }
+        }
+        return h;
+    }
+
+    /**
+     * @return the index following the closing quote of the quoted text starting at start,
+     *  a doubled quote being an escaped one
+     */
+    private static int skipQuoted(final String sql, final int start, final char quote) {
+        final int length = sql.length();
+        int i = start + 1;
+        while (i < length) {
+            if (sql.charAt(i) == quote) {
+                if (i + 1 < length && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                break;
+            }
+            i++;
+        }
+        return i + 1;
+    }
+
+    /**
+     * @return the index following the numeric literal starting at start
+     */
+    private static int skipNumber(final String sql, final int start) {
+        final int length = sql.length();
+        final boolean hex = start + 1 < length && sql.charAt(start) == '0'
+                && (sql.charAt(start + 1) == 'x' || sql.charAt(start + 1) == 'X');
+        int i = start;
+        while (i < length) {
+            final char c = sql.charAt(i);
+            if (Character.isLetterOrDigit(c) || c == '.') {
+                i++;
+            } else if ((c == '+' || c == '-') && !hex
+                    && (sql.charAt(i - 1) == 'e' || sql.charAt(i - 1) == 'E')) {
+                // Exponent sign
+                i++;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    private static long update(final long h, final int c) {
+        return (h ^ c) * FNV_PRIME;
+    }
+
+    /**
+     * Register an execution of the SQL text and add its elapsed time to the first execution
+     * or repeat statistics of the text.
+     *
+     * @param key hash of the normalised SQL text
+     * @param elapsed execution time in milliseconds, without the time to get the connection
+     * @return <code>true</code> if it is the first execution of this text during the test
+     */
+    boolean record(final long key, final long elapsed) {
+        final Long k = Long.valueOf(key);
+        Stats stats = statsByText.get(k);
+        boolean first = false;
+        if (stats == null) {
+            // Several threads can execute a new text at the same time, only one of them wins
+            final Stats created = new Stats();
+            final Stats previous = statsByText.putIfAbsent(k, created);
+            first = previous == null;
+            stats = first ? created : previous;
+        }
+        if (first) {
+            stats.firstCount.incrementAndGet();
+            stats.firstTotal.addAndGet(elapsed);
+        } else {
+            stats.repeatCount.incrementAndGet();
+            stats.repeatTotal.addAndGet(elapsed);
+        }
+        return first;
+    }
+
+    /**
+     * Log the first versus repeat average elapsed times, in total and per SQL text (debug),
+     * then clear the index.
+     *
+     * @param log logger to use
+     */
+    void logAndClear(final Logger log) {
+        if (statsByText.isEmpty()) {
+            return;
+        }
+        long firstCount = 0;
+        long firstTotal = 0;
+        long repeatCount = 0;
+        long repeatTotal = 0;
+        for (final Map.Entry<Long, Stats> entry : statsByText.entrySet()) {
+            final Stats stats = entry.getValue();
+            firstCount += stats.firstCount.get();
+            firstTotal += stats.firstTotal.get();
+            repeatCount += stats.repeatCount.get();
+            repeatTotal += stats.repeatTotal.get();
+            if (log.isDebugEnabled()) {
+                log.debug("SQL text " + Long.toHexString(entry.getKey().longValue())
+                        + ": first " + average(stats.firstTotal.get(), stats.firstCount.get()) + " ms"
+                        + ", repeat " + average(stats.repeatTotal.get(), stats.repeatCount.get())
+                        + " ms (" + stats.repeatCount.get() + " samples)");
+            }
+        }
+        log.info(statsByText.size() + " distinct SQL texts: first executions "
+                + average(firstTotal, firstCount) + " ms average (" + firstCount + " samples)"
+                + ", repeats " + average(repeatTotal, repeatCount) + " ms average (" + repeatCount + " samples)");
+        statsByText.clear();
+    }
+
+    private static long average(final long total, final long count) {
+        return count == 0 ? 0 : total / count;
+    }
+}
@@ -52,6 +52,10 @@ public class JDBCwoTimeOutSampler extends AbstractJDBCwoTimeOutTestElement imple
     
     private static final Logger log = LoggingManager.getLoggerForClass();
 
+    // Label suffixes used when jdbcsampler.trackfirstexecution is set
+    private static final String FIRST_EXECUTION_SUFFIX = " (first)"; // $NON-NLS-1$
+    private static final String REPEAT_EXECUTION_SUFFIX = " (repeat)"; // $NON-NLS-1$
+
     /**
      * Creates a JDBCSampler.
      */
@@ -88,7 +92,7 @@ public class JDBCwoTimeOutSampler extends AbstractJDBCwoTimeOutTestElement imple
             } finally {
                 res.latencyEnd(); // use latency to measure connection time
             }
-            res.setResponseHeaders(conn.toString());
+            res.setResponseHeaders(getResponseHeaders(conn));
             res.setResponseData(execute(conn));
         } catch (final SQLException ex) {
             final String errCode = Integer.toString(ex.getErrorCode());
@@ -107,6 +111,12 @@ public class JDBCwoTimeOutSampler extends AbstractJDBCwoTimeOutTestElement imple
 
         // TODO: process warnings? Set Code and Message to success?
         res.sampleEnd();
+        // Only a successful execution is the first one, failed samples keep the plain label
+        if (TRACK_FIRST_EXECUTION && res.isSuccessful() && hasSqlText()) {
+            // latency is the time to get the connection
+            final boolean firstExecution = recordExecution(getSqlTextKey(), res.getTime() - res.getLatency());
+            res.setSampleLabel(getName() + (firstExecution ? FIRST_EXECUTION_SUFFIX : REPEAT_EXECUTION_SUFFIX));
+        }
         return res;
     }
 
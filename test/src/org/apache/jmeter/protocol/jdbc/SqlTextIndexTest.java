@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SqlTextIndexTest {
+
+    private static void assertSameText(final String sql1, final String sql2) {
+        assertEquals(sql1 + " | " + sql2, SqlTextIndex.hash(sql1), SqlTextIndex.hash(sql2));
+    }
+
+    private static void assertDifferentText(final String sql1, final String sql2) {
+        assertNotEquals(sql1 + " | " + sql2, SqlTextIndex.hash(sql1), SqlTextIndex.hash(sql2));
+    }
+
+    @Test
+    public void testWhitespaceAndCase() {
+        assertSameText("SELECT  *\n FROM t", "select * from t");
+        assertSameText("  select * from t\t", "select * from t");
+    }
+
+    @Test
+    public void testStringLiterals() {
+        assertSameText("select * from t where name = 'a'", "select * from t where name = 'O''Brien'");
+        assertSameText("select * from t where name = ''", "select * from t where name = 'SELECT x'");
+    }
+
+    @Test
+    public void testNumericLiterals() {
+        assertSameText("select * from t where id = 42", "select * from t where id = 7");
+        assertSameText("select * from t where x = 3.5", "select * from t where x = 1");
+        assertSameText("select * from t where x = 1e-5", "select * from t where x = 2");
+        assertSameText("select * from t where x = 2E+10", "select * from t where x = 2");
+        assertSameText("select * from t where x = 0x1F", "select * from t where x = 2");
+        // A hex literal ending with E is not followed by an exponent sign
+        assertSameText("select 0x1E-5 from t", "select 1-5 from t");
+    }
+
+    @Test
+    public void testDigitsInIdentifiers() {
+        assertDifferentText("select * from t1", "select * from t2");
+        assertDifferentText("select col_1 from t", "select col_2 from t");
+    }
+
+    @Test
+    public void testDifferentIdentifiers() {
+        assertDifferentText("select a from t", "select b from t");
+        assertDifferentText("select * from t where id = 1", "select * from u where id = 1");
+    }
+
+    @Test
+    public void testQuotedIdentifiers() {
+        assertDifferentText("select * from \"T\"", "select * from \"t\"");
+        assertDifferentText("select * from `T`", "select * from `t`");
+        assertSameText("SELECT * FROM \"T\"", "select * from \"T\"");
+        assertDifferentText("select \"a\"\"b\" from t", "select \"a\"\"B\" from t");
+        // Quoted identifiers are not literals
+        assertDifferentText("select * from \"t1\"", "select * from \"t2\"");
+        assertDifferentText("select * from t where \"x\" = 1", "select * from t where 'x' = 1");
+    }
+
+    @Test
+    public void testParameterMarkers() {
+        assertDifferentText("select * from t where id = ?", "select * from t where id = 1");
+        assertDifferentText("select * from t where name = ?", "select * from t where name = 'a'");
+        assertSameText("select * from t where id = ?", "SELECT * FROM t WHERE id = ?");
+    }
+
+    @Test
+    public void testUnterminatedQuotes() {
+        SqlTextIndex.hash("select * from t where name = 'abc");
+        SqlTextIndex.hash("select * from t where name = 'abc''");
+        SqlTextIndex.hash("select * from \"t");
+        SqlTextIndex.hash("select * from `t");
+        SqlTextIndex.hash("'");
+        SqlTextIndex.hash("");
+        assertSameText("select 'abc", "select 'x");
+    }
+
+    @Test
+    public void testRecord() {
+        final SqlTextIndex index = new SqlTextIndex();
+        final long key1 = SqlTextIndex.hash("select * from t where id = 1");
+        final long key2 = SqlTextIndex.hash("select * from t where id = 2");
+        final long other = SqlTextIndex.hash("select * from u");
+        assertTrue(index.record(key1, 100));
+        assertFalse(index.record(key2, 10));
+        assertTrue(index.record(other, 50));
+        assertFalse(index.record(other, 5));
+    }
+}